@@ -7,11 +7,13 @@ public class Candidate {
     private final int id;
     private final String name;
     private final int voteCount;
+    private final int postId;
 
-    public Candidate(int id, String name, int voteCount) {
+    public Candidate(int id, String name, int voteCount, int postId) {
         this.id = id;
         this.name = name;
         this.voteCount = voteCount;
+        this.postId = postId;
     }
 
     public int getId() {
@@ -25,4 +27,8 @@ public class Candidate {
     public int getVoteCount() {
         return voteCount;
     }
+
+    public int getPostId() {
+        return postId;
+    }
 }
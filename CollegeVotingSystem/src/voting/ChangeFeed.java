@@ -0,0 +1,352 @@
+package voting;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process feed of committed changes, used by live dashboards.
+ * Vote and registration commits publish small deltas; one feed thread merges
+ * them and hands every subscriber at most one Frame per FRAME_MILLIS, so the
+ * number of dashboards does not change the database load. While nobody is
+ * subscribed, publishing costs a single volatile read.
+ * Once a second the feed reads the single-row commit counter (see
+ * DBHelper.countChange) and compares how far it moved with the number of
+ * commits published here. Any difference, such as a ballot from another
+ * kiosk or a new candidate, triggers a full reload.
+ */
+public final class ChangeFeed {
+
+    /**
+     * Receives frames. Called on the feed thread, so Swing listeners must
+     * hand the frame over to the Event Dispatch Thread themselves.
+     */
+    public interface Listener {
+        void onFrame(Frame frame);
+    }
+
+    /**
+     * The changes merged since the previous frame, plus the resulting totals.
+     */
+    public static final class Frame {
+        private final boolean snapshot;
+        private final List<Post> posts;
+        private final List<Candidate> candidates;
+        private final int registered;
+        private final int voted;
+        private final Map<Integer, Integer> voteDeltas;
+        private final int newBallots;
+        private final int newRegistrations;
+
+        private Frame(boolean snapshot, List<Post> posts, List<Candidate> candidates, int registered, int voted,
+                      Map<Integer, Integer> voteDeltas, int newBallots, int newRegistrations) {
+            this.snapshot = snapshot;
+            this.posts = posts;
+            this.candidates = candidates;
+            this.registered = registered;
+            this.voted = voted;
+            this.voteDeltas = voteDeltas;
+            this.newBallots = newBallots;
+            this.newRegistrations = newRegistrations;
+        }
+
+        /**
+         * True if this frame is a full reload rather than a delta; posts or
+         * candidates may have changed.
+         */
+        public boolean isSnapshot() {
+            return snapshot;
+        }
+
+        public List<Post> getPosts() {
+            return posts;
+        }
+
+        /**
+         * All candidates with their current vote counts, ordered by id.
+         */
+        public List<Candidate> getCandidates() {
+            return candidates;
+        }
+
+        public int getRegistered() {
+            return registered;
+        }
+
+        public int getVoted() {
+            return voted;
+        }
+
+        /**
+         * Votes gained per candidate id since the previous frame.
+         */
+        public Map<Integer, Integer> getVoteDeltas() {
+            return voteDeltas;
+        }
+
+        public int getNewBallots() {
+            return newBallots;
+        }
+
+        public int getNewRegistrations() {
+            return newRegistrations;
+        }
+
+        /**
+         * Returns the same totals as a snapshot frame, for late subscribers.
+         */
+        Frame asSnapshot() {
+            return new Frame(true, posts, candidates, registered, voted, Collections.emptyMap(), 0, 0);
+        }
+    }
+
+    private static final long FRAME_MILLIS = 100; // 10 refreshes per second
+    private static final int FRAMES_PER_COUNTER_CHECK = 10; // check for other writers once a second
+
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private static volatile boolean active = false;
+
+    // Deltas published since the last frame
+    private static final Map<Integer, Integer> pendingVotes = new ConcurrentHashMap<>();
+    private static final LongAdder pendingBallots = new LongAdder();
+    private static final LongAdder pendingRegistrations = new LongAdder();
+    private static final LongAdder pendingCommits = new LongAdder();
+
+    private static ScheduledExecutorService executor = null;
+    private static volatile Pump pump = null;
+    private static volatile Frame latest = null;
+
+    private ChangeFeed() {
+    }
+
+    // --- Publishing (called after commit) ---
+
+    /**
+     * Publishes a committed ballot: one vote for each selected candidate.
+     * The ballot's transaction must have called DBHelper.countChange once.
+     */
+    public static void publishBallot(List<Candidate> selections) {
+        if (!active) return;
+        for (Candidate c : selections) {
+            pendingVotes.merge(c.getId(), 1, Integer::sum);
+        }
+        pendingBallots.increment();
+        pendingCommits.increment();
+    }
+
+    /**
+     * Publishes newly registered students, committed in one transaction
+     * that called DBHelper.countChange once.
+     */
+    public static void publishRegistrations(int count) {
+        if (!active) return;
+        pendingRegistrations.add(count);
+        pendingCommits.increment();
+    }
+
+    // --- Subscribing ---
+
+    /**
+     * Adds a listener. It first receives a snapshot frame, then deltas.
+     * The feed thread starts with the first listener.
+     */
+    public static synchronized void subscribe(Listener listener) {
+        listeners.add(listener);
+        if (executor == null) {
+            start();
+        } else {
+            executor.execute(() -> {
+                Frame f = latest;
+                if (f != null) listener.onFrame(f.asSnapshot());
+            });
+        }
+    }
+
+    /**
+     * Removes a listener. The feed thread stops with the last listener.
+     */
+    public static synchronized void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty() && executor != null) {
+            active = false;
+            executor.execute(pump::close);
+            executor.shutdown(); // Cancels the frame schedule; queued one-off tasks still run
+            executor = null;
+            pump = null;
+            latest = null;
+        }
+    }
+
+    private static void start() {
+        active = true;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "change-feed");
+            t.setDaemon(true);
+            return t;
+        });
+        pump = new Pump();
+        executor.execute(pump::reload);
+        executor.scheduleAtFixedRate(pump::tick, FRAME_MILLIS, FRAME_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private static void emit(Pump source, Frame frame) {
+        if (source != pump) return; // A stopped feed finishing its last task
+        latest = frame;
+        for (Listener l : listeners) {
+            try {
+                l.onFrame(frame);
+            } catch (RuntimeException e) {
+                System.err.println("Change feed listener error: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * State owned by one run of the feed thread.
+     */
+    private static final class Pump {
+        private Connection conn;
+        private List<Post> posts = Collections.emptyList();
+        private List<Candidate> candidates = Collections.emptyList();
+        private final Map<Integer, Integer> votes = new HashMap<>();
+        private int registered;
+        private int voted;
+        private long snapshotCounter; // commit counter in the last snapshot
+        private long appliedCommits; // published commits applied since then
+        private int frameCount;
+
+        void tick() {
+            try {
+                boolean check = ++frameCount % FRAMES_PER_COUNTER_CHECK == 0;
+                if (conn == null) {
+                    if (check) reload(); // Retry a failed first load
+                    return;
+                }
+
+                emitPendingDeltas();
+
+                // Deltas only cover this process's ballots and registrations; anything
+                // else (other kiosks, new candidates or posts) moves the counter further
+                if (check && DBHelper.readChangeCounter(conn) - snapshotCounter != appliedCommits) {
+                    reload();
+                }
+            } catch (SQLException | RuntimeException e) {
+                // Keep the schedule alive; an exception would cancel it
+                System.err.println("Change feed error: " + e.getMessage());
+            }
+        }
+
+        private void emitPendingDeltas() {
+            Map<Integer, Integer> deltas = new HashMap<>();
+            for (Integer id : pendingVotes.keySet()) {
+                Integer n = pendingVotes.remove(id);
+                if (n != null) deltas.put(id, n);
+            }
+            int ballots = (int) pendingBallots.sumThenReset();
+            int registrations = (int) pendingRegistrations.sumThenReset();
+            appliedCommits += pendingCommits.sumThenReset();
+            if (deltas.isEmpty() && ballots == 0 && registrations == 0) return;
+
+            deltas.forEach((id, n) -> votes.merge(id, n, Integer::sum));
+            voted += ballots;
+            registered += registrations;
+            emit(this, new Frame(false, posts, currentCandidates(), registered, voted,
+                    Collections.unmodifiableMap(deltas), ballots, registrations));
+        }
+
+        /**
+         * Reloads everything from the database and emits a snapshot frame.
+         */
+        void reload() {
+            try {
+                if (conn == null) conn = DBHelper.getReadOnlyConnection();
+
+                long counter;
+                List<Post> loadedPosts = new ArrayList<>();
+                List<Candidate> loaded = new ArrayList<>();
+                Map<Integer, Integer> loadedVotes = new HashMap<>();
+                int loadedRegistered;
+                int loadedVoted;
+
+                // One read transaction, so the counter and all three queries see the same snapshot
+                conn.setAutoCommit(false);
+                try {
+                    counter = DBHelper.readChangeCounter(conn);
+
+                    try (PreparedStatement ps = conn.prepareStatement("SELECT id, name, deptPrefix FROM posts ORDER BY id ASC;");
+                         ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            loadedPosts.add(new Post(rs.getInt("id"), rs.getString("name"), rs.getString("deptPrefix")));
+                        }
+                    }
+
+                    try (PreparedStatement ps = conn.prepareStatement("SELECT id, name, votes, postId FROM candidates ORDER BY id ASC;");
+                         ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            loaded.add(new Candidate(rs.getInt("id"), rs.getString("name"), 0, rs.getInt("postId")));
+                            loadedVotes.put(rs.getInt("id"), rs.getInt("votes"));
+                        }
+                    }
+
+                    try (PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*), COALESCE(SUM(hasVoted), 0) FROM students;");
+                         ResultSet rs = ps.executeQuery()) {
+                        rs.next();
+                        loadedRegistered = rs.getInt(1);
+                        loadedVoted = rs.getInt(2);
+                    }
+                } finally {
+                    conn.setAutoCommit(true); // Ends the read transaction
+                }
+
+                // Discard deltas published so far: their commits are either in the snapshot,
+                // or landed after it and leave the counter ahead, which the next check corrects
+                pendingVotes.clear();
+                pendingBallots.reset();
+                pendingRegistrations.reset();
+                pendingCommits.reset();
+                snapshotCounter = counter;
+                appliedCommits = 0;
+
+                posts = Collections.unmodifiableList(loadedPosts);
+                candidates = loaded;
+                votes.clear();
+                votes.putAll(loadedVotes);
+                registered = loadedRegistered;
+                voted = loadedVoted;
+                emit(this, new Frame(true, posts, currentCandidates(), registered, voted, Collections.emptyMap(), 0, 0));
+            } catch (SQLException e) {
+                System.err.println("Change feed reload failed: " + e.getMessage());
+            }
+        }
+
+        private List<Candidate> currentCandidates() {
+            List<Candidate> out = new ArrayList<>(candidates.size());
+            for (Candidate c : candidates) {
+                out.add(new Candidate(c.getId(), c.getName(), votes.getOrDefault(c.getId(), 0), c.getPostId()));
+            }
+            return Collections.unmodifiableList(out);
+        }
+
+        void close() {
+            if (conn == null) return;
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                // Ignore close errors for simplicity
+            }
+            conn = null;
+        }
+    }
+}
@@ -6,6 +6,14 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Handles all direct interactions with the SQLite database.
@@ -15,38 +23,102 @@ public class DBHelper {
     // SQLite connection string
     private static final String URL = "jdbc:sqlite:voting.db";
 
-    // Static initializer to ensure tables are created when the class is loaded
-    static {
+    // Post that candidates from before posts existed are moved into
+    public static final String DEFAULT_POST = "General";
+
+    // SQLITE_OPEN_READONLY flag understood by the sqlite-jdbc driver
+    private static final String READ_ONLY_OPEN_MODE = "1";
+
+    // Set once the driver is loaded and the tables exist
+    private static volatile boolean initialized = false;
+
+    // In-memory caches, filled by the startup warm-up (see Startup) and
+    // dropped whenever the database changes (see validateCaches)
+    private static final Map<String, String> settingsCache = new ConcurrentHashMap<>();
+    private static volatile boolean settingsLoaded = false;
+    private static volatile List<Candidate> candidateCache = null;
+    private static volatile List<Post> postCache = null;
+    private static final Set<String> rollIndex = ConcurrentHashMap.newKeySet();
+
+    // Held open only to read PRAGMA data_version, which changes whenever any
+    // other connection commits, in this process or another kiosk
+    private static Connection versionConn = null;
+    private static long cacheDataVersion = -1;
+
+    /**
+     * Loads the SQLite JDBC driver class.
+     */
+    public static void loadDriver() {
         try {
             Class.forName("org.sqlite.JDBC"); // Load SQLite driver
         } catch (ClassNotFoundException e) {
             System.err.println("SQLite JDBC driver not found: " + e.getMessage());
         }
+    }
+
+    /**
+     * Opens and closes a first connection so the driver's native library
+     * and the database file are ready before the first real query.
+     */
+    public static void primeConnection() throws SQLException {
+        DriverManager.getConnection(URL).close();
+    }
+
+    /**
+     * Loads the driver and creates the tables, once. Called by the startup
+     * sequence, or lazily by the first connection request. Throws if the
+     * schema cannot be created, and tries again on the next call.
+     */
+    public static synchronized void initialize() throws SQLException {
+        if (initialized) return;
+        loadDriver();
         createTables();
+        initialized = true;
     }
 
     /**
      * Establishes and returns a database connection.
      */
     public static Connection getConnection() throws SQLException {
+        if (!initialized) initialize();
         return DriverManager.getConnection(URL);
     }
 
+    /**
+     * Returns a read-only connection, used for long reads such as exports.
+     */
+    public static Connection getReadOnlyConnection() throws SQLException {
+        if (!initialized) initialize();
+        Properties props = new Properties();
+        props.setProperty("open_mode", READ_ONLY_OPEN_MODE);
+        return DriverManager.getConnection(URL, props);
+    }
+
     /**
      * Creates the necessary tables if they don't exist.
      */
-    private static void createTables() {
+    private static void createTables() throws SQLException {
         // Table for students
         String studentSql = "CREATE TABLE IF NOT EXISTS students ("
                 + "regNo TEXT PRIMARY KEY,"
                 + "hasVoted INTEGER DEFAULT 0"
                 + ");";
 
-        // Table for candidates
-        String candidateSql = "CREATE TABLE IF NOT EXISTS candidates ("
+        // Table for posts (e.g. President); deptPrefix restricts voters, NULL means everyone
+        String postSql = "CREATE TABLE IF NOT EXISTS posts ("
                 + "id INTEGER PRIMARY KEY AUTOINCREMENT,"
                 + "name TEXT NOT NULL UNIQUE,"
-                + "votes INTEGER DEFAULT 0"
+                + "deptPrefix TEXT"
+                + ");";
+
+        // Table for candidates; names are unique within a post. Databases created
+        // before posts existed keep their original UNIQUE(name) constraint.
+        String candidateSql = "CREATE TABLE IF NOT EXISTS candidates ("
+                + "id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                + "name TEXT NOT NULL,"
+                + "votes INTEGER DEFAULT 0,"
+                + "postId INTEGER REFERENCES posts(id),"
+                + "UNIQUE(postId, name)"
                 + ");";
 
         // Table for application settings (e.g., voting time)
@@ -55,20 +127,70 @@ public class DBHelper {
                 + "value TEXT"
                 + ");";
 
-        try (Connection conn = getConnection();
+        // Single-row commit counter; see countChange()
+        String changesSql = "CREATE TABLE IF NOT EXISTS changes ("
+                + "id INTEGER PRIMARY KEY CHECK (id = 1),"
+                + "counter INTEGER NOT NULL DEFAULT 0"
+                + ");";
+
+        // Not getConnection(): initialize() has not finished yet
+        try (Connection conn = DriverManager.getConnection(URL);
              Statement stmt = conn.createStatement()) {
+            // WAL lets readers (e.g. exports) run alongside vote commits
+            stmt.execute("PRAGMA journal_mode=WAL;");
             stmt.execute(studentSql);
+            stmt.execute(postSql);
             stmt.execute(candidateSql);
             stmt.execute(settingsSql);
-        } catch (SQLException e) {
-            System.err.println("Error creating tables: " + e.getMessage());
+            stmt.execute(changesSql);
+            stmt.execute("INSERT OR IGNORE INTO changes(id, counter) VALUES(1, 0);");
+            migrateCandidatesToPosts(stmt);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_candidates_post ON candidates(postId);");
         }
     }
 
+    /**
+     * Upgrades a database from before posts existed: adds the postId column
+     * and moves any existing candidates into the default post.
+     */
+    private static void migrateCandidatesToPosts(Statement stmt) throws SQLException {
+        boolean hasPostId = false;
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(candidates);")) {
+            while (rs.next()) {
+                if ("postId".equalsIgnoreCase(rs.getString("name"))) {
+                    hasPostId = true;
+                }
+            }
+        }
+        if (!hasPostId) {
+            stmt.execute("ALTER TABLE candidates ADD COLUMN postId INTEGER REFERENCES posts(id);");
+        }
+
+        try (ResultSet rs = stmt.executeQuery("SELECT 1 FROM candidates WHERE postId IS NULL LIMIT 1;")) {
+            if (!rs.next()) return;
+        }
+        stmt.execute("INSERT OR IGNORE INTO posts(name) VALUES('" + DEFAULT_POST + "');");
+        stmt.execute("UPDATE candidates SET postId = (SELECT id FROM posts WHERE name = '" + DEFAULT_POST + "') "
+                + "WHERE postId IS NULL;");
+    }
+
     /**
      * Retrieves an application setting by key.
      */
-    public static String getSetting(String key) {
+    public static synchronized String getSetting(String key) {
+        validateCaches();
+        if (!settingsLoaded) {
+            try {
+                loadSettings();
+            } catch (SQLException e) {
+                System.err.println("Error reading settings: " + e.getMessage());
+            }
+        }
+        if (settingsLoaded) {
+            return settingsCache.get(key);
+        }
+
+        // Fall back to reading the single key
         String sql = "SELECT value FROM settings WHERE key = ?;";
         try (Connection conn = getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -99,4 +221,225 @@ public class DBHelper {
             System.err.println("Error saving setting: " + e.getMessage());
         }
     }
+
+    // --- Startup Caches ---
+
+    /**
+     * Drops the settings, candidate and post caches if the database has changed
+     * since they were filled. Costs one PRAGMA on an already open connection.
+     * Callers hold the class lock, so a cache is never filled with data older
+     * than the version it is checked against.
+     */
+    private static synchronized void validateCaches() {
+        long version = -1;
+        try {
+            if (versionConn == null) versionConn = getReadOnlyConnection();
+            try (Statement stmt = versionConn.createStatement();
+                 ResultSet rs = stmt.executeQuery("PRAGMA data_version;")) {
+                if (rs.next()) version = rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("DB error (validateCaches): " + e.getMessage());
+            closeVersionConnection();
+        }
+
+        // If the version is unknown, treat the caches as stale
+        if (version == -1 || version != cacheDataVersion) {
+            settingsLoaded = false;
+            settingsCache.clear();
+            candidateCache = null;
+            postCache = null;
+        }
+        cacheDataVersion = version;
+    }
+
+    private static void closeVersionConnection() {
+        if (versionConn == null) return;
+        try {
+            versionConn.close();
+        } catch (SQLException e) {
+            // Ignore close errors for simplicity
+        }
+        versionConn = null;
+    }
+
+    /**
+     * Loads every setting into memory so later reads skip the database.
+     */
+    public static synchronized void warmSettings() throws SQLException {
+        validateCaches();
+        loadSettings();
+    }
+
+    private static void loadSettings() throws SQLException {
+        settingsCache.clear();
+        String sql = "SELECT key, value FROM settings;";
+        try (Connection conn = getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                String value = rs.getString("value");
+                if (value != null) {
+                    settingsCache.put(rs.getString("key"), value);
+                }
+            }
+        }
+        settingsLoaded = true;
+    }
+
+    /**
+     * Returns the candidates ordered by id, cached until the database changes.
+     * Vote counts are as of loading, so use this for ballots, not results.
+     */
+    public static synchronized List<Candidate> getCandidates() {
+        validateCaches();
+        List<Candidate> cached = candidateCache;
+        if (cached != null) return cached;
+        try {
+            return loadCandidates();
+        } catch (SQLException e) {
+            System.err.println("DB error (getCandidates): " + e.getMessage());
+            return Collections.emptyList(); // Don't cache a partial list
+        }
+    }
+
+    /**
+     * Loads the candidate list into the cache, reporting failures to the caller.
+     */
+    public static synchronized List<Candidate> warmCandidates() throws SQLException {
+        validateCaches();
+        return loadCandidates();
+    }
+
+    private static List<Candidate> loadCandidates() throws SQLException {
+        List<Candidate> out = new ArrayList<>();
+        String sql = "SELECT id, name, votes, postId FROM candidates ORDER BY id ASC;";
+        try (Connection conn = getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                out.add(new Candidate(rs.getInt("id"), rs.getString("name"), rs.getInt("votes"), rs.getInt("postId")));
+            }
+        }
+        List<Candidate> cached = Collections.unmodifiableList(out);
+        candidateCache = cached;
+        return cached;
+    }
+
+    /**
+     * Drops the cached candidate list after candidates change.
+     */
+    public static void invalidateCandidates() {
+        candidateCache = null;
+    }
+
+    /**
+     * Returns all posts ordered by id, cached until the database changes.
+     */
+    public static synchronized List<Post> getPosts() {
+        validateCaches();
+        List<Post> cached = postCache;
+        if (cached != null) return cached;
+        try {
+            return loadPosts();
+        } catch (SQLException e) {
+            System.err.println("DB error (getPosts): " + e.getMessage());
+            return Collections.emptyList(); // Don't cache a partial list
+        }
+    }
+
+    /**
+     * Loads the post list into the cache, reporting failures to the caller.
+     */
+    public static synchronized List<Post> warmPosts() throws SQLException {
+        validateCaches();
+        return loadPosts();
+    }
+
+    private static List<Post> loadPosts() throws SQLException {
+        List<Post> out = new ArrayList<>();
+        String sql = "SELECT id, name, deptPrefix FROM posts ORDER BY id ASC;";
+        try (Connection conn = getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                out.add(new Post(rs.getInt("id"), rs.getString("name"), rs.getString("deptPrefix")));
+            }
+        }
+        List<Post> cached = Collections.unmodifiableList(out);
+        postCache = cached;
+        return cached;
+    }
+
+    /**
+     * Adds a new post. A null deptPrefix opens the post to every student.
+     */
+    public static void addPost(String name, String deptPrefix) throws SQLException {
+        String sql = "INSERT INTO posts(name, deptPrefix) VALUES(?, ?);";
+        try (Connection conn = getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            try {
+                ps.setString(1, name);
+                ps.setString(2, deptPrefix);
+                ps.executeUpdate();
+                countChange(conn);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        postCache = null;
+    }
+
+    /**
+     * Bumps the commit counter in the caller's open transaction. Every write that
+     * touches students, candidates or posts calls this before committing, so the
+     * ChangeFeed can tell from one row whether it has seen every commit.
+     */
+    public static void countChange(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("UPDATE changes SET counter = counter + 1 WHERE id = 1;")) {
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Reads the commit counter bumped by countChange().
+     */
+    static long readChangeCounter(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT counter FROM changes WHERE id = 1;");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Loads every registered register number into the voter-roll index.
+     */
+    public static void warmRollIndex() throws SQLException {
+        String sql = "SELECT regNo FROM students;";
+        try (Connection conn = getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                rollIndex.add(rs.getString("regNo"));
+            }
+        }
+    }
+
+    /**
+     * Returns true if the register number is known to be registered.
+     * A false result is not final: the index may still be warming up.
+     */
+    public static boolean isIndexedStudent(String regNo) {
+        return rollIndex.contains(regNo);
+    }
+
+    /**
+     * Adds newly registered students to the voter-roll index.
+     */
+    public static void indexStudents(Collection<String> regNos) {
+        rollIndex.addAll(regNos);
+    }
 }
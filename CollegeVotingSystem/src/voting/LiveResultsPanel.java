@@ -0,0 +1,100 @@
+package voting;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin dashboard panel showing live vote counts per post and turnout.
+ * Updated from the ChangeFeed while the panel is on screen; it never
+ * queries the database itself.
+ */
+public class LiveResultsPanel extends JPanel implements ChangeFeed.Listener {
+
+    private final JLabel turnoutLabel = new JLabel("Waiting for data...");
+    private final JPanel postsPanel = new JPanel();
+    private final Map<Integer, JProgressBar> bars = new HashMap<>(); // by candidate id
+    private int candidateCount = -1; // candidates in the frame the bars were built for
+
+    public LiveResultsPanel() {
+        setLayout(new BorderLayout(0, 10));
+        setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+        turnoutLabel.setFont(new Font("SansSerif", Font.BOLD, 14));
+        add(turnoutLabel, BorderLayout.NORTH);
+
+        postsPanel.setLayout(new BoxLayout(postsPanel, BoxLayout.Y_AXIS));
+        add(new JScrollPane(postsPanel), BorderLayout.CENTER);
+    }
+
+    // Subscribe only while shown, so a closed dashboard costs nothing
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        ChangeFeed.subscribe(this);
+    }
+
+    @Override
+    public void removeNotify() {
+        ChangeFeed.unsubscribe(this);
+        super.removeNotify();
+    }
+
+    @Override
+    public void onFrame(ChangeFeed.Frame frame) {
+        SwingUtilities.invokeLater(() -> render(frame));
+    }
+
+    private void render(ChangeFeed.Frame frame) {
+        List<Candidate> candidates = frame.getCandidates();
+        if (frame.isSnapshot() || candidates.size() != candidateCount) {
+            rebuild(frame);
+        }
+
+        // Bars show each candidate's share of the votes for their post
+        Map<Integer, Integer> postTotals = new HashMap<>();
+        for (Candidate c : candidates) {
+            postTotals.merge(c.getPostId(), c.getVoteCount(), Integer::sum);
+        }
+        for (Candidate c : candidates) {
+            JProgressBar bar = bars.get(c.getId());
+            if (bar == null) continue;
+            int total = postTotals.get(c.getPostId());
+            bar.setMaximum(Math.max(1, total));
+            bar.setValue(c.getVoteCount());
+            int percent = total == 0 ? 0 : Math.round(100f * c.getVoteCount() / total);
+            bar.setString(c.getName() + " : " + c.getVoteCount() + " (" + percent + "%)");
+        }
+
+        int percent = frame.getRegistered() == 0 ? 0 : Math.round(100f * frame.getVoted() / frame.getRegistered());
+        turnoutLabel.setText("Ballots cast: " + frame.getVoted() + " / " + frame.getRegistered()
+                + " registered (" + percent + "%)");
+    }
+
+    private void rebuild(ChangeFeed.Frame frame) {
+        postsPanel.removeAll();
+        bars.clear();
+        candidateCount = frame.getCandidates().size();
+        for (Post post : frame.getPosts()) {
+            JLabel title = new JLabel(post.getName()
+                    + (post.getDeptPrefix() == null ? "" : " (" + post.getDeptPrefix() + ")"));
+            title.setFont(new Font("SansSerif", Font.BOLD, 13));
+            postsPanel.add(title);
+            postsPanel.add(Box.createVerticalStrut(5));
+
+            for (Candidate c : frame.getCandidates()) {
+                if (c.getPostId() != post.getId()) continue;
+                JProgressBar bar = new JProgressBar();
+                bar.setStringPainted(true);
+                bars.put(c.getId(), bar);
+                postsPanel.add(bar);
+                postsPanel.add(Box.createVerticalStrut(5));
+            }
+            postsPanel.add(Box.createVerticalStrut(10));
+        }
+        postsPanel.revalidate();
+        postsPanel.repaint();
+    }
+}
@@ -0,0 +1,187 @@
+package voting;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Serves the change feed to local clients (e.g. a projector dashboard) as
+ * JSON Lines over TCP, bound to the loopback address only. Each client gets
+ * a snapshot line on connect and then one line per frame. Every frame is
+ * encoded once for all clients; a client that falls too far behind is dropped.
+ */
+public class LocalFeedServer implements ChangeFeed.Listener {
+
+    private static final int CLIENT_QUEUE_SIZE = 64; // About 6 seconds of frames
+
+    private final ServerSocket server;
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+    private volatile ChangeFeed.Frame latest = null;
+
+    private LocalFeedServer(ServerSocket server) {
+        this.server = server;
+    }
+
+    /**
+     * Starts serving on 127.0.0.1 at the given port.
+     */
+    public static LocalFeedServer start(int port) throws IOException {
+        ServerSocket socket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        LocalFeedServer feed = new LocalFeedServer(socket);
+        Thread acceptor = new Thread(feed::acceptLoop, "feed-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        ChangeFeed.subscribe(feed);
+        return feed;
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Stops the server and disconnects all clients.
+     */
+    public void stop() {
+        ChangeFeed.unsubscribe(this);
+        try {
+            server.close();
+        } catch (IOException e) {
+            // Ignore close errors for simplicity
+        }
+        clients.forEach(Client::close);
+    }
+
+    // Synchronized with client registration so a new client sees each frame exactly once
+    @Override
+    public synchronized void onFrame(ChangeFeed.Frame frame) {
+        latest = frame;
+        if (clients.isEmpty()) return;
+        String line = toJson(frame);
+        for (Client c : clients) {
+            if (!c.queue.offer(line)) {
+                c.close(); // Too slow to keep up
+            }
+        }
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Client client = new Client(server.accept());
+                register(client);
+                client.start();
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    System.err.println("Live feed accept error: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private synchronized void register(Client client) {
+        ChangeFeed.Frame f = latest;
+        if (f != null) {
+            client.queue.offer(toJson(f.asSnapshot()));
+        }
+        clients.add(client);
+    }
+
+    // --- JSON Encoding ---
+
+    private static String toJson(ChangeFeed.Frame frame) {
+        StringBuilder sb = new StringBuilder(128);
+        if (frame.isSnapshot()) {
+            sb.append("{\"type\":\"snapshot\",\"posts\":[");
+            List<Post> posts = frame.getPosts();
+            for (int i = 0; i < posts.size(); i++) {
+                Post p = posts.get(i);
+                if (i > 0) sb.append(',');
+                sb.append("{\"id\":").append(p.getId())
+                  .append(",\"name\":").append(ResultExporter.jsonString(p.getName()))
+                  .append(",\"deptPrefix\":")
+                  .append(p.getDeptPrefix() == null ? "null" : ResultExporter.jsonString(p.getDeptPrefix()))
+                  .append('}');
+            }
+            sb.append("],\"candidates\":[");
+            List<Candidate> candidates = frame.getCandidates();
+            for (int i = 0; i < candidates.size(); i++) {
+                Candidate c = candidates.get(i);
+                if (i > 0) sb.append(',');
+                sb.append("{\"id\":").append(c.getId())
+                  .append(",\"postId\":").append(c.getPostId())
+                  .append(",\"name\":").append(ResultExporter.jsonString(c.getName()))
+                  .append(",\"votes\":").append(c.getVoteCount())
+                  .append('}');
+            }
+            sb.append(']');
+        } else {
+            sb.append("{\"type\":\"delta\",\"votes\":{");
+            boolean first = true;
+            for (Map.Entry<Integer, Integer> e : frame.getVoteDeltas().entrySet()) {
+                if (!first) sb.append(',');
+                sb.append('"').append(e.getKey()).append("\":").append(e.getValue());
+                first = false;
+            }
+            sb.append("},\"ballots\":").append(frame.getNewBallots())
+              .append(",\"registrations\":").append(frame.getNewRegistrations());
+        }
+        sb.append(",\"registered\":").append(frame.getRegistered())
+          .append(",\"voted\":").append(frame.getVoted())
+          .append('}');
+        return sb.toString();
+    }
+
+    /**
+     * One connected client, written to by its own thread so a slow reader
+     * never holds up the feed thread.
+     */
+    private final class Client {
+        private final Socket socket;
+        private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(CLIENT_QUEUE_SIZE);
+        private final Thread writer = new Thread(this::writeLoop, "feed-client");
+
+        Client(Socket socket) {
+            this.socket = socket;
+            writer.setDaemon(true);
+        }
+
+        void start() {
+            writer.start();
+        }
+
+        private void writeLoop() {
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+                while (!socket.isClosed()) {
+                    out.write(queue.take());
+                    out.write('\n');
+                    if (queue.isEmpty()) out.flush();
+                }
+            } catch (IOException | InterruptedException e) {
+                // Client went away
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            clients.remove(this);
+            writer.interrupt(); // Wakes the writer if it is waiting for a frame
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Ignore close errors for simplicity
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package voting;
+
+/**
+ * Simple data model for a Post (e.g. President, Secretary) that candidates stand for.
+ */
+public class Post {
+    private final int id;
+    private final String name;
+    private final String deptPrefix; // null means every student may vote
+
+    public Post(int id, String name, String deptPrefix) {
+        this.id = id;
+        this.name = name;
+        this.deptPrefix = deptPrefix;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDeptPrefix() {
+        return deptPrefix;
+    }
+
+    /**
+     * Returns true if the student with this register number may vote for this post.
+     */
+    public boolean isOpenTo(String regNo) {
+        return deptPrefix == null || regNo.startsWith(deptPrefix);
+    }
+}
@@ -0,0 +1,430 @@
+package voting;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams query results from the database straight to disk.
+ * Rows are written one at a time through a fixed-size buffer, so memory use
+ * does not depend on the number of rows. Files are written to a temporary
+ * file first and renamed into place once complete.
+ */
+public class ResultExporter {
+
+    /**
+     * Supported export formats.
+     */
+    public enum Format {
+        CSV("CSV", "csv"),
+        JSONL("JSON Lines", "jsonl"),
+        BINARY("Binary", "bin");
+
+        private final String label;
+        private final String extension;
+
+        Format(String label, String extension) {
+            this.label = label;
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Binary format: magic, version, column names, then one tagged value per cell
+    private static final byte[] BINARY_MAGIC = {'C', 'V', 'S', 'X'};
+    private static final int BINARY_VERSION = 1;
+    private static final int TAG_END = 0;
+    private static final int TAG_ROW = 1;
+    private static final int VALUE_NULL = 0;
+    private static final int VALUE_INT = 1;
+    private static final int VALUE_TEXT = 2;
+    private static final int VALUE_REAL = 3;
+
+    private static final String RESULTS_SQL =
+            "SELECT p.name AS post, c.id, c.name, c.votes "
+            + "FROM candidates c LEFT JOIN posts p ON p.id = c.postId "
+            + "ORDER BY p.id ASC, c.votes DESC, c.name ASC;";
+    private static final String ROLL_SQL =
+            "SELECT regNo, hasVoted FROM students ORDER BY regNo ASC;";
+    // Register numbers are the department prefix followed by a 3-digit serial
+    private static final String TURNOUT_SQL =
+            "SELECT substr(regNo, 1, length(regNo) - 3) AS prefix, "
+            + "COUNT(*) AS registered, SUM(hasVoted) AS voted "
+            + "FROM students GROUP BY prefix ORDER BY prefix ASC;";
+
+    private ResultExporter() {
+    }
+
+    /**
+     * Exports the candidate results grouped by post, highest vote count first.
+     */
+    public static long exportResults(Path target, Format format, boolean gzip) throws IOException, SQLException {
+        return export(RESULTS_SQL, target, format, gzip);
+    }
+
+    /**
+     * Exports every registered student together with their voted flag.
+     */
+    public static long exportVoterRoll(Path target, Format format, boolean gzip) throws IOException, SQLException {
+        return export(ROLL_SQL, target, format, gzip);
+    }
+
+    /**
+     * Exports registered and voted counts per department prefix.
+     */
+    public static long exportTurnout(Path target, Format format, boolean gzip) throws IOException, SQLException {
+        return export(TURNOUT_SQL, target, format, gzip);
+    }
+
+    /**
+     * Runs a query on a read-only connection and streams its rows to the target file.
+     * Returns the number of rows written.
+     */
+    public static long export(String sql, Path target, Format format, boolean gzip) throws IOException, SQLException {
+        Path tmp = createTempSibling(target);
+        boolean done = false;
+        try (Connection conn = DBHelper.getReadOnlyConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery();
+             ChannelSink out = new ChannelSink(tmp, gzip)) {
+
+            long rows;
+            switch (format) {
+                case CSV:
+                    rows = writeCsv(rs, out);
+                    break;
+                case JSONL:
+                    rows = writeJsonLines(rs, out);
+                    break;
+                default:
+                    rows = writeBinary(rs, out);
+                    break;
+            }
+            out.finish();
+            done = true;
+            return rows;
+        } finally {
+            if (done) {
+                moveIntoPlace(tmp, target);
+            } else {
+                Files.deleteIfExists(tmp);
+            }
+        }
+    }
+
+    /**
+     * Writes a block of text to the target file, replacing it atomically.
+     */
+    public static void writeText(Path target, CharSequence text) throws IOException {
+        Path tmp = createTempSibling(target);
+        boolean done = false;
+        try (ChannelSink out = new ChannelSink(tmp, false)) {
+            out.putUtf8(text);
+            out.finish();
+            done = true;
+        } finally {
+            if (done) {
+                moveIntoPlace(tmp, target);
+            } else {
+                Files.deleteIfExists(tmp);
+            }
+        }
+    }
+
+    // --- Format Writers ---
+
+    private static long writeCsv(ResultSet rs, ChannelSink out) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        for (int i = 1; i <= columns; i++) {
+            if (i > 1) out.put((byte) ',');
+            putCsvField(out, meta.getColumnLabel(i));
+        }
+        out.put((byte) '\n');
+
+        long rows = 0;
+        while (rs.next()) {
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) out.put((byte) ',');
+                Object value = rs.getObject(i);
+                if (value instanceof Number) {
+                    out.putAscii(value.toString());
+                } else if (value != null) {
+                    putCsvField(out, value.toString());
+                }
+            }
+            out.put((byte) '\n');
+            rows++;
+        }
+        return rows;
+    }
+
+    private static void putCsvField(ChannelSink out, String s) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < s.length() && !quote; i++) {
+            char c = s.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.putUtf8(s);
+            return;
+        }
+        out.put((byte) '"');
+        out.putUtf8(s.replace("\"", "\"\""));
+        out.put((byte) '"');
+    }
+
+    private static long writeJsonLines(ResultSet rs, ChannelSink out) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+
+        // Pre-encode the `{"key":` / `,"key":` prefixes once instead of per row
+        byte[][] keys = new byte[columns][];
+        for (int i = 0; i < columns; i++) {
+            String key = (i == 0 ? "{" : ",") + jsonString(meta.getColumnLabel(i + 1)) + ":";
+            keys[i] = key.getBytes(StandardCharsets.UTF_8);
+        }
+
+        long rows = 0;
+        while (rs.next()) {
+            for (int i = 0; i < columns; i++) {
+                out.put(keys[i], 0, keys[i].length);
+                Object value = rs.getObject(i + 1);
+                if (value == null) {
+                    out.putAscii("null");
+                } else if (value instanceof Number) {
+                    out.putAscii(value.toString());
+                } else {
+                    out.putUtf8(jsonString(value.toString()));
+                }
+            }
+            out.put((byte) '}');
+            out.put((byte) '\n');
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * Quotes and escapes a string as a JSON string literal.
+     */
+    static String jsonString(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2);
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static long writeBinary(ResultSet rs, ChannelSink out) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+
+        out.put(BINARY_MAGIC, 0, BINARY_MAGIC.length);
+        out.put((byte) BINARY_VERSION);
+        out.putVarint(columns);
+        for (int i = 1; i <= columns; i++) {
+            putBinaryText(out, meta.getColumnLabel(i));
+        }
+
+        long rows = 0;
+        while (rs.next()) {
+            out.put((byte) TAG_ROW);
+            for (int i = 1; i <= columns; i++) {
+                Object value = rs.getObject(i);
+                if (value == null) {
+                    out.put((byte) VALUE_NULL);
+                } else if (value instanceof Double || value instanceof Float) {
+                    out.put((byte) VALUE_REAL);
+                    out.putLong(Double.doubleToLongBits(((Number) value).doubleValue()));
+                } else if (value instanceof Number) {
+                    long v = ((Number) value).longValue();
+                    out.put((byte) VALUE_INT);
+                    out.putVarint((v << 1) ^ (v >> 63)); // zig-zag so small negatives stay short
+                } else {
+                    out.put((byte) VALUE_TEXT);
+                    putBinaryText(out, value.toString());
+                }
+            }
+            rows++;
+        }
+        out.put((byte) TAG_END);
+        out.putVarint(rows);
+        return rows;
+    }
+
+    private static void putBinaryText(ChannelSink out, String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.putVarint(b.length);
+        out.put(b, 0, b.length);
+    }
+
+    // --- File Helpers ---
+
+    /**
+     * Picks a random temp file name next to the target. The file itself is
+     * created by ChannelSink with CREATE_NEW, so it gets the normal umask
+     * permissions rather than the owner-only ones of Files.createTempFile.
+     */
+    private static Path createTempSibling(Path target) {
+        Path dir = target.toAbsolutePath().getParent();
+        String suffix = Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36);
+        return dir.resolve(target.getFileName().toString() + "." + suffix + ".tmp");
+    }
+
+    private static void moveIntoPlace(Path tmp, Path target) throws IOException {
+        // Replacing a file keeps its permissions, as overwriting it in place used to
+        if (Files.exists(target)) {
+            try {
+                Files.setPosixFilePermissions(tmp, Files.getPosixFilePermissions(target));
+            } catch (UnsupportedOperationException e) {
+                // Not a POSIX file system; the default permissions apply
+            }
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Buffered writer over a FileChannel, optionally gzip-compressed.
+     */
+    private static final class ChannelSink implements AutoCloseable {
+        private final FileChannel channel;
+        private final GZIPOutputStream gzip;
+        private final ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+        ChannelSink(Path file, boolean compress) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            gzip = compress ? new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE) : null;
+        }
+
+        void put(byte b) throws IOException {
+            if (!buf.hasRemaining()) flush();
+            buf.put(b);
+        }
+
+        void put(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (!buf.hasRemaining()) flush();
+                int n = Math.min(len, buf.remaining());
+                buf.put(b, off, n);
+                off += n;
+                len -= n;
+            }
+        }
+
+        void putAscii(String s) throws IOException {
+            for (int i = 0; i < s.length(); i++) {
+                put((byte) s.charAt(i));
+            }
+        }
+
+        void putUtf8(CharSequence s) throws IOException {
+            CharBuffer in = CharBuffer.wrap(s);
+            encoder.reset();
+            while (true) {
+                CoderResult result = encoder.encode(in, buf, true);
+                if (result.isOverflow()) {
+                    flush();
+                } else if (result.isUnderflow()) {
+                    break;
+                } else {
+                    result.throwException();
+                }
+            }
+            while (encoder.flush(buf).isOverflow()) {
+                flush();
+            }
+        }
+
+        void putVarint(long v) throws IOException {
+            while ((v & ~0x7FL) != 0) {
+                put((byte) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            put((byte) v);
+        }
+
+        void putLong(long v) throws IOException {
+            if (buf.remaining() < Long.BYTES) flush();
+            buf.putLong(v);
+        }
+
+        void flush() throws IOException {
+            buf.flip();
+            if (gzip != null) {
+                gzip.write(buf.array(), 0, buf.limit());
+            } else {
+                while (buf.hasRemaining()) {
+                    channel.write(buf);
+                }
+            }
+            buf.clear();
+        }
+
+        /**
+         * Flushes all pending bytes and forces them to disk.
+         */
+        void finish() throws IOException {
+            flush();
+            if (gzip != null) {
+                gzip.finish();
+            }
+            channel.force(true);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (gzip != null) {
+                gzip.close(); // also closes the channel
+            } else {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package voting;
+
+import java.lang.management.ManagementFactory;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs database start-up work in the background while the GUI is shown.
+ * Driver loading and the first connection come first, then the schema check,
+ * then the settings, candidate, post and voter-roll caches are warmed in parallel.
+ * Each phase is timed and a breakdown is printed once everything is ready.
+ */
+public final class Startup {
+
+    // Reference point for all timings: when Main started
+    private static final long START_NANOS = System.nanoTime();
+
+    private static final Queue<String> timings = new ConcurrentLinkedQueue<>();
+    private static final CompletableFuture<Void> ready = new CompletableFuture<>();
+    private static final AtomicBoolean started = new AtomicBoolean(false);
+    private static final AtomicBoolean firstVoteLogged = new AtomicBoolean(false);
+
+    /**
+     * A start-up step that may fail.
+     */
+    private interface Phase {
+        void run() throws Exception;
+    }
+
+    private Startup() {
+    }
+
+    /**
+     * Starts the background start-up sequence. Safe to call more than once.
+     */
+    public static void begin() {
+        if (!started.compareAndSet(false, true)) return;
+
+        ExecutorService pool = Executors.newFixedThreadPool(3, r -> {
+            Thread t = new Thread(r, "startup");
+            t.setDaemon(true);
+            return t;
+        });
+
+        CompletableFuture<Void> driver = CompletableFuture.runAsync(timed("driver", DBHelper::loadDriver), pool);
+        CompletableFuture<Void> connect = driver.thenRunAsync(timed("connection", DBHelper::primeConnection), pool);
+        CompletableFuture<Void> schema = connect.thenRunAsync(timed("schema", DBHelper::initialize), pool);
+
+        CompletableFuture<Void> settings = schema.thenRunAsync(timed("settings cache", DBHelper::warmSettings), pool);
+        CompletableFuture<Void> candidates = schema.thenRunAsync(timed("candidate cache", DBHelper::warmCandidates), pool);
+        CompletableFuture<Void> posts = schema.thenRunAsync(timed("post cache", DBHelper::warmPosts), pool);
+        CompletableFuture<Void> roll = schema.thenRunAsync(timed("voter-roll index", DBHelper::warmRollIndex), pool);
+
+        CompletableFuture.allOf(settings, candidates, posts, roll).whenComplete((v, error) -> {
+            pool.shutdown();
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                System.err.println("FATAL: Could not initialize database connection.");
+                cause.printStackTrace();
+                ready.completeExceptionally(cause);
+                return;
+            }
+            record("ready", -1, elapsedMillis());
+            System.out.println("Database 'voting.db' initialized successfully.");
+            printBreakdown();
+            ready.complete(null);
+        });
+    }
+
+    /**
+     * Completes once the database is usable, or exceptionally if start-up failed.
+     */
+    public static CompletableFuture<Void> whenReady() {
+        return ready;
+    }
+
+    /**
+     * Records a one-off milestone, e.g. the first frame being shown.
+     */
+    public static void mark(String milestone) {
+        long at = elapsedMillis();
+        record(milestone, -1, at);
+        if (ready.isDone()) {
+            System.out.println("[startup] " + milestone + " at +" + at + " ms");
+        }
+    }
+
+    /**
+     * Logs the time from start-up to the first recorded vote, once per run.
+     */
+    public static void markFirstVote() {
+        if (firstVoteLogged.compareAndSet(false, true)) {
+            System.out.println("[startup] time to first vote: " + elapsedMillis() + " ms");
+        }
+    }
+
+    // --- Helpers ---
+
+    private static Runnable timed(String name, Phase phase) {
+        return () -> {
+            long begin = elapsedMillis();
+            try {
+                phase.run();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(name + " failed: " + e.getMessage(), e);
+            }
+            long end = elapsedMillis();
+            record(name, end - begin, begin);
+        };
+    }
+
+    // durationMillis is -1 for milestones, which only have a point in time
+    private static void record(String name, long durationMillis, long atMillis) {
+        if (durationMillis >= 0) {
+            timings.add(String.format("  %-18s %5d ms (from +%d ms)", name, durationMillis, atMillis));
+        } else {
+            timings.add(String.format("  %-18s at +%d ms", name, atMillis));
+        }
+    }
+
+    private static void printBreakdown() {
+        // JVM launch to Main; computed here so management classes load off the critical path
+        long jvmMillis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime()
+                - elapsedMillis();
+
+        StringBuilder sb = new StringBuilder("[startup] phase timings (JVM launch to main: ")
+                .append(jvmMillis).append(" ms)\n");
+        for (String line : timings) {
+            sb.append(line).append("\n");
+        }
+        System.out.print(sb);
+    }
+
+    private static long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - START_NANOS);
+    }
+}
@@ -3,8 +3,9 @@ package voting;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.MessageDigest;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -14,7 +15,11 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * VotingGUI - The main graphical interface (Swing) for the college voting system.
@@ -31,8 +36,15 @@ public class VotingGUI extends JFrame {
     private static final DateTimeFormatter INPUT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
     private static final DateTimeFormatter DISPLAY_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
+    // Departments and their register number prefixes
+    private static final String[] DEPARTMENTS = {"CS (KSD24CS)", "EEE (KSD24EEE)", "EC (KSD24EC)", "MECH (KSD24ME)"};
+
     // UI components
     private final JPanel mainPanel;
+    private final List<JButton> gatedButtons = new ArrayList<>(); // enabled once start-up is ready
+    private JLabel statusLabel;
+    private String startupError = null;
+    private LocalFeedServer localFeed = null;
 
     public VotingGUI() {
         setTitle("College Voting System");
@@ -42,6 +54,8 @@ public class VotingGUI extends JFrame {
         add(mainPanel);
         // Show the main menu when the GUI is created
         showMainMenu();
+        Startup.whenReady().whenComplete((v, error) ->
+                SwingUtilities.invokeLater(() -> onStartupFinished(error)));
     }
 
     /**
@@ -51,6 +65,7 @@ public class VotingGUI extends JFrame {
         pack();
         setLocationRelativeTo(null); // Center the window
         setVisible(true);
+        Startup.mark("first frame");
     }
 
     // --- Utility Methods ---
@@ -59,6 +74,21 @@ public class VotingGUI extends JFrame {
         JOptionPane.showMessageDialog(this, message);
     }
 
+    private void onStartupFinished(Throwable error) {
+        if (error != null) {
+            startupError = describeStartupError(error);
+        }
+        if (statusLabel != null) {
+            statusLabel.setText(startupError != null ? startupError : "Ready");
+        }
+        boolean ready = startupError == null;
+        gatedButtons.forEach(b -> b.setEnabled(ready));
+    }
+
+    private static String describeStartupError(Throwable error) {
+        return "Database unavailable: " + error.getMessage();
+    }
+
     private void showMainMenu() {
         mainPanel.removeAll();
         mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
@@ -67,14 +97,30 @@ public class VotingGUI extends JFrame {
         title.setFont(new Font("SansSerif", Font.BOLD, 18));
         title.setAlignmentX(Component.CENTER_ALIGNMENT);
         mainPanel.add(title);
+
+        // Buttons that need the database stay disabled until start-up succeeds.
+        // A failure may not have reached onStartupFinished yet, so record it here too.
+        CompletableFuture<Void> startup = Startup.whenReady();
+        if (startup.isCompletedExceptionally() && startupError == null) {
+            startupError = describeStartupError(startup.handle((v, error) -> error).join());
+        }
+        boolean ready = startup.isDone() && !startup.isCompletedExceptionally();
+        statusLabel = new JLabel(startupError != null ? startupError : ready ? "Ready" : "Starting up...");
+        statusLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        mainPanel.add(statusLabel);
         mainPanel.add(Box.createVerticalStrut(15));
 
         // Create buttons for main menu options
+        gatedButtons.clear();
         String[] options = {"Admin Login", "Student Login", "View Results", "Exit"};
         for (int i = 0; i < options.length; i++) {
             JButton button = new JButton((i + 1) + ". " + options[i]);
             button.setAlignmentX(Component.CENTER_ALIGNMENT);
             button.addActionListener(e -> handleMainMenuChoice(e));
+            if (!"Exit".equals(options[i])) {
+                gatedButtons.add(button);
+                button.setEnabled(ready);
+            }
             mainPanel.add(button);
             mainPanel.add(Box.createVerticalStrut(10));
         }
@@ -120,7 +166,7 @@ public class VotingGUI extends JFrame {
         mainPanel.add(title);
         mainPanel.add(Box.createVerticalStrut(15));
 
-        String[] options = {"Add Candidate", "Bulk Register Students", "Set Voting Time", "Publish Results", "Back"};
+        String[] options = {"Add Post", "Add Candidate", "Bulk Register Students", "Set Voting Time", "Publish Results", "Export Data", "Live Dashboard", "Back"};
         for (int i = 0; i < options.length; i++) {
             JButton button = new JButton((i + 1) + ". " + options[i]);
             button.setAlignmentX(Component.CENTER_ALIGNMENT);
@@ -136,15 +182,21 @@ public class VotingGUI extends JFrame {
 
     private void handleAdminMenuChoice(ActionEvent event) {
         String command = event.getActionCommand();
-        if (command.contains("1. Add Candidate")) {
+        if (command.contains("1. Add Post")) {
+            addPost();
+        } else if (command.contains("2. Add Candidate")) {
             addCandidate();
-        } else if (command.contains("2. Bulk Register Students")) {
+        } else if (command.contains("3. Bulk Register Students")) {
             bulkRegisterStudentsMenu();
-        } else if (command.contains("3. Set Voting Time")) {
+        } else if (command.contains("4. Set Voting Time")) {
             setVotingTime();
-        } else if (command.contains("4. Publish Results")) {
+        } else if (command.contains("5. Publish Results")) {
             publishResults();
-        } else if (command.contains("5. Back")) {
+        } else if (command.contains("6. Export Data")) {
+            exportData();
+        } else if (command.contains("7. Live Dashboard")) {
+            openLiveDashboard();
+        } else if (command.contains("8. Back")) {
             showMainMenu();
         }
     }
@@ -157,28 +209,109 @@ public class VotingGUI extends JFrame {
         return now.isBefore(start);
     }
 
+    private void addPost() {
+        if (!adminAddAllowed()) {
+            showMessage("Cannot add posts after voting has started.");
+            return;
+        }
+
+        String[] eligibility = new String[DEPARTMENTS.length + 1];
+        eligibility[0] = "All students";
+        System.arraycopy(DEPARTMENTS, 0, eligibility, 1, DEPARTMENTS.length);
+
+        JTextField nameField = new JTextField(20);
+        JComboBox<String> deptBox = new JComboBox<>(eligibility);
+
+        JPanel panel = new JPanel(new GridLayout(2, 2));
+        panel.add(new JLabel("Post name (e.g. President):"));
+        panel.add(nameField);
+        panel.add(new JLabel("Who can vote:"));
+        panel.add(deptBox);
+
+        int result = JOptionPane.showConfirmDialog(this, panel, "Add Post", JOptionPane.OK_CANCEL_OPTION);
+        if (result != JOptionPane.OK_OPTION) return;
+
+        String name = nameField.getText().trim();
+        if (name.isEmpty()) {
+            showMessage("Post addition aborted.");
+            return;
+        }
+
+        // Department posts are restricted by register number prefix
+        String selected = (String) deptBox.getSelectedItem();
+        String prefix = deptBox.getSelectedIndex() == 0 ? null
+                : selected.substring(selected.indexOf('(') + 1, selected.indexOf(')'));
+
+        try {
+            DBHelper.addPost(name, prefix);
+            showMessage("Post added: " + name + (prefix == null ? "" : " (" + prefix + " students only)"));
+        } catch (SQLException e) {
+            if (e.getMessage().contains("UNIQUE constraint failed")) {
+                showMessage("Error: Post '" + name + "' already exists.");
+            } else {
+                showMessage("Error adding post: " + e.getMessage());
+            }
+        }
+    }
+
     private void addCandidate() {
         if (!adminAddAllowed()) {
             showMessage("Cannot add candidates after voting has started.");
             return;
         }
 
-        String name = JOptionPane.showInputDialog(this, "Enter candidate name:", "Add Candidate", JOptionPane.PLAIN_MESSAGE);
-        if (name == null || name.trim().isEmpty()) {
+        // Single-post elections need no setup: create the default post on first use
+        List<Post> posts = DBHelper.getPosts();
+        if (posts.isEmpty()) {
+            try {
+                DBHelper.addPost(DBHelper.DEFAULT_POST, null);
+            } catch (SQLException e) {
+                showMessage("Error creating default post: " + e.getMessage());
+                return;
+            }
+            posts = DBHelper.getPosts();
+        }
+
+        JTextField nameField = new JTextField(20);
+        JComboBox<String> postBox = new JComboBox<>(posts.stream().map(Post::getName).toArray(String[]::new));
+
+        JPanel panel = new JPanel(new GridLayout(2, 2));
+        panel.add(new JLabel("Candidate name:"));
+        panel.add(nameField);
+        panel.add(new JLabel("Post:"));
+        panel.add(postBox);
+
+        int result = JOptionPane.showConfirmDialog(this, panel, "Add Candidate", JOptionPane.OK_CANCEL_OPTION);
+        String name = nameField.getText();
+        if (result != JOptionPane.OK_OPTION || name.trim().isEmpty()) {
             showMessage("Candidate addition aborted.");
             return;
         }
         name = name.trim();
+        Post post = posts.get(postBox.getSelectedIndex());
 
-        String sql = "INSERT INTO candidates(name) VALUES(?);";
+        String sql = "INSERT INTO candidates(name, postId) VALUES(?, ?);";
         try (Connection conn = DBHelper.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, name);
-            ps.executeUpdate();
-            showMessage("Candidate added: " + name);
+            conn.setAutoCommit(false);
+            try {
+                ps.setString(1, name);
+                ps.setInt(2, post.getId());
+                ps.executeUpdate();
+                DBHelper.countChange(conn); // Not published, so the change feed reloads
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            DBHelper.invalidateCandidates();
+            showMessage("Candidate added: " + name + " (" + post.getName() + ")");
         } catch (SQLException e) {
-            if (e.getMessage().contains("UNIQUE constraint failed")) {
-                showMessage("Error: Candidate '" + name + "' already exists.");
+            if (e.getMessage().contains("UNIQUE constraint failed: candidates.postId")) {
+                showMessage("Error: Candidate '" + name + "' already exists for this post.");
+            } else if (e.getMessage().contains("UNIQUE constraint failed")) {
+                // Databases created before posts existed keep names unique across all posts
+                showMessage("Error: A candidate named '" + name + "' already exists.");
             } else {
                 showMessage("Error adding candidate: " + e.getMessage());
             }
@@ -191,15 +324,14 @@ public class VotingGUI extends JFrame {
             return;
         }
 
-        String[] departments = {"CS (KSD24CS)", "EEE (KSD24EEE)", "EC (KSD24EC)", "MECH (KSD24ME)"};
         String selectedDept = (String) JOptionPane.showInputDialog(
                 this,
                 "Select department to register 999 students (001-999):",
                 "Bulk Registration",
                 JOptionPane.PLAIN_MESSAGE,
                 null,
-                departments,
-                departments[0]
+                DEPARTMENTS,
+                DEPARTMENTS[0]
         );
 
         if (selectedDept == null) return; // User cancelled
@@ -222,6 +354,7 @@ public class VotingGUI extends JFrame {
     private void registerStudentsBulk(String prefix, String deptName) {
         String sql = "INSERT OR IGNORE INTO students(regNo) VALUES(?)";
         int count = 0;
+        List<String> regNos = new ArrayList<>();
 
         try (Connection conn = DBHelper.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -231,12 +364,19 @@ public class VotingGUI extends JFrame {
                 String regNo = prefix + String.format("%03d", i);
                 ps.setString(1, regNo);
                 ps.addBatch();
+                regNos.add(regNo);
                 count++;
             }
             
-            ps.executeBatch();
+            int inserted = 0;
+            for (int n : ps.executeBatch()) {
+                if (n > 0) inserted++; // 0 when the student was already registered
+            }
+            if (inserted > 0) DBHelper.countChange(conn);
             conn.commit();
             conn.setAutoCommit(true);
+            DBHelper.indexStudents(regNos);
+            if (inserted > 0) ChangeFeed.publishRegistrations(inserted);
 
             showMessage("Successfully registered " + count + " potential students for " + deptName 
                       + " (" + prefix + "001 to " + prefix + "999).");
@@ -299,7 +439,7 @@ public class VotingGUI extends JFrame {
             return;
         }
 
-        List<Candidate> results = fetchAllCandidatesSorted();
+        Map<String, List<Candidate>> results = fetchResultsByPost();
         if (results.isEmpty()) {
             showMessage("No candidates were registered.");
             return;
@@ -308,7 +448,7 @@ public class VotingGUI extends JFrame {
         // Format results for display and file saving
         StringBuilder sb = new StringBuilder();
         sb.append("--- Final Voting Results ---\n");
-        results.forEach(c -> sb.append(c.getName()).append(" : ").append(c.getVoteCount()).append("\n"));
+        appendResults(sb, results);
         
         showMessage(sb.toString());
 
@@ -318,18 +458,113 @@ public class VotingGUI extends JFrame {
         showMessage("Results saved successfully to results.txt and published.");
     }
 
-    private void saveResultsToFile(List<Candidate> results) {
-        try (FileWriter fw = new FileWriter("results.txt")) {
-            fw.write("--- Final Voting Results ---\n");
-            fw.write("Published on: " + LocalDateTime.now().format(DISPLAY_FORMAT) + "\n\n");
-            for (Candidate c : results) {
-                fw.write(c.getName() + " : " + c.getVoteCount() + "\n");
-            }
+    private void saveResultsToFile(Map<String, List<Candidate>> results) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("--- Final Voting Results ---\n");
+        sb.append("Published on: ").append(LocalDateTime.now().format(DISPLAY_FORMAT)).append("\n");
+        appendResults(sb, results);
+        try {
+            ResultExporter.writeText(Paths.get("results.txt"), sb);
         } catch (IOException e) {
             showMessage("Error saving results file: " + e.getMessage());
         }
     }
 
+    private void exportData() {
+        String[] datasets = {"Results", "Voter Roll", "Turnout"};
+        JComboBox<String> datasetBox = new JComboBox<>(datasets);
+        JComboBox<ResultExporter.Format> formatBox = new JComboBox<>(ResultExporter.Format.values());
+        JCheckBox gzipBox = new JCheckBox("Compress (gzip)");
+
+        JPanel panel = new JPanel(new GridLayout(3, 2));
+        panel.add(new JLabel("Data:"));
+        panel.add(datasetBox);
+        panel.add(new JLabel("Format:"));
+        panel.add(formatBox);
+        panel.add(new JLabel());
+        panel.add(gzipBox);
+
+        int result = JOptionPane.showConfirmDialog(this, panel, "Export Data", JOptionPane.OK_CANCEL_OPTION);
+        if (result != JOptionPane.OK_OPTION) return;
+
+        String dataset = (String) datasetBox.getSelectedItem();
+        ResultExporter.Format format = (ResultExporter.Format) formatBox.getSelectedItem();
+        boolean gzip = gzipBox.isSelected();
+
+        // e.g. "voter_roll.csv.gz"
+        String fileName = dataset.toLowerCase().replace(' ', '_') + "." + format.getExtension() + (gzip ? ".gz" : "");
+        Path target = Paths.get(fileName);
+
+        // Large exports can take a while; keep the window responsive
+        new SwingWorker<Long, Void>() {
+            @Override
+            protected Long doInBackground() throws IOException, SQLException {
+                if ("Voter Roll".equals(dataset)) {
+                    return ResultExporter.exportVoterRoll(target, format, gzip);
+                } else if ("Turnout".equals(dataset)) {
+                    return ResultExporter.exportTurnout(target, format, gzip);
+                } else {
+                    return ResultExporter.exportResults(target, format, gzip);
+                }
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    showMessage("Exported " + get() + " rows to " + fileName + ".");
+                } catch (ExecutionException e) {
+                    showMessage("Error exporting data: " + e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    showMessage("Export interrupted.");
+                }
+            }
+        }.execute();
+    }
+
+
+    private void openLiveDashboard() {
+        JFrame frame = new JFrame("Live Results");
+        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        frame.add(new LiveResultsPanel(), BorderLayout.CENTER);
+
+        JButton feedButton = new JButton(localFeed == null ? "Start Local Feed" : "Stop Local Feed");
+        feedButton.addActionListener(e -> toggleLocalFeed(frame, feedButton));
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttons.add(feedButton);
+        frame.add(buttons, BorderLayout.SOUTH);
+
+        frame.setSize(450, 500);
+        frame.setLocationRelativeTo(this);
+        frame.setVisible(true);
+    }
+
+    // Serves the live feed as JSON Lines on 127.0.0.1 for external displays
+    private void toggleLocalFeed(Component parent, JButton button) {
+        if (localFeed != null) {
+            localFeed.stop();
+            localFeed = null;
+            button.setText("Start Local Feed");
+            return;
+        }
+
+        String saved = DBHelper.getSetting("liveFeedPort");
+        String input = JOptionPane.showInputDialog(parent, "Port to serve the live feed on (localhost only):",
+                saved != null ? saved : "7878");
+        if (input == null) return; // User cancelled
+
+        try {
+            int port = Integer.parseInt(input.trim());
+            localFeed = LocalFeedServer.start(port);
+            DBHelper.setSetting("liveFeedPort", String.valueOf(port));
+            button.setText("Stop Local Feed");
+            JOptionPane.showMessageDialog(parent, "Live feed available at 127.0.0.1:" + localFeed.getPort());
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(parent, "Invalid port number.");
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(parent, "Could not start live feed: " + e.getMessage());
+        }
+    }
+
 
     // --- Student Functions ---
 
@@ -381,59 +616,85 @@ public class VotingGUI extends JFrame {
     }
 
     private void castVote(String regNo) {
-        List<Candidate> list = fetchAllCandidates();
-        if (list.isEmpty()) {
-            showMessage("No candidates available.");
-            return;
+        // Group the ballot by post, keeping only posts this student may vote for
+        Map<Post, List<Candidate>> ballot = new LinkedHashMap<>();
+        List<Candidate> candidates = fetchAllCandidates();
+        for (Post post : DBHelper.getPosts()) {
+            if (!post.isOpenTo(regNo)) continue;
+            List<Candidate> forPost = new ArrayList<>();
+            for (Candidate c : candidates) {
+                if (c.getPostId() == post.getId()) forPost.add(c);
+            }
+            if (!forPost.isEmpty()) ballot.put(post, forPost);
         }
 
-        // Create options array for JOptionPane
-        String[] candidateOptions = list.stream()
-                                    .map(c -> c.getName())
-                                    .toArray(String[]::new);
-
-        String choiceName = (String) JOptionPane.showInputDialog(
-                this,
-                "Select a candidate to vote for:",
-                "Cast Your Vote",
-                JOptionPane.QUESTION_MESSAGE,
-                null,
-                candidateOptions,
-                candidateOptions[0]
-        );
-
-        if (choiceName == null) { // User cancelled
-            showMessage("Vote cancelled.");
+        if (ballot.isEmpty()) {
+            showMessage("No candidates available.");
             return;
         }
 
-        // Find the selected candidate object
-        Candidate sel = list.stream()
-                            .filter(c -> c.getName().equals(choiceName))
-                            .findFirst().orElse(null);
+        // One dropdown per post, all filled in a single dialog
+        JPanel panel = new JPanel(new GridLayout(ballot.size(), 2, 5, 5));
+        List<JComboBox<String>> choices = new ArrayList<>();
+        for (Map.Entry<Post, List<Candidate>> entry : ballot.entrySet()) {
+            JComboBox<String> box = new JComboBox<>();
+            box.addItem("-- Select --");
+            entry.getValue().forEach(c -> box.addItem(c.getName()));
+            choices.add(box);
+            panel.add(new JLabel(entry.getKey().getName() + ":"));
+            panel.add(box);
+        }
+
+        List<Candidate> selections = new ArrayList<>();
+        while (selections.isEmpty()) {
+            int option = JOptionPane.showConfirmDialog(this, panel, "Cast Your Vote",
+                    JOptionPane.OK_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE);
+            if (option != JOptionPane.OK_OPTION) { // User cancelled
+                showMessage("Vote cancelled.");
+                return;
+            }
 
-        if (sel == null) {
-            showMessage("Invalid selection.");
-            return;
+            int i = 0;
+            for (List<Candidate> forPost : ballot.values()) {
+                int index = choices.get(i++).getSelectedIndex();
+                if (index <= 0) {
+                    selections.clear();
+                    showMessage("Please select a candidate for every post.");
+                    break;
+                }
+                selections.add(forPost.get(index - 1));
+            }
         }
-        
-        // Execute atomic update
+
+        // Record every selection in one transaction: a single commit for the whole ballot
+        String setVoted = "UPDATE students SET hasVoted = 1 WHERE regNo = ? AND hasVoted = 0;";
         String updateVote = "UPDATE candidates SET votes = votes + 1 WHERE id = ?;";
-        String setVoted = "UPDATE students SET hasVoted = 1 WHERE regNo = ?;";
         
         try (Connection conn = DBHelper.getConnection()) {
             conn.setAutoCommit(false);
-            try (PreparedStatement ps1 = conn.prepareStatement(updateVote);
-                 PreparedStatement ps2 = conn.prepareStatement(setVoted)) {
-
-                ps1.setInt(1, sel.getId());
-                ps1.executeUpdate();
+            try (PreparedStatement ps1 = conn.prepareStatement(setVoted);
+                 PreparedStatement ps2 = conn.prepareStatement(updateVote)) {
+
+                // Guarded update: fails if another session voted since the login checks
+                ps1.setString(1, regNo);
+                if (ps1.executeUpdate() == 0) {
+                    conn.rollback();
+                    showMessage("You have already voted.");
+                    return;
+                }
 
-                ps2.setString(1, regNo);
-                ps2.executeUpdate();
+                for (Candidate sel : selections) {
+                    ps2.setInt(1, sel.getId());
+                    ps2.addBatch();
+                }
+                ps2.executeBatch();
+                DBHelper.countChange(conn);
 
                 conn.commit();
-                showMessage("Vote recorded successfully for " + sel.getName() + ". Thank you!");
+                ChangeFeed.publishBallot(selections);
+                Startup.markFirstVote();
+                showMessage("Vote recorded successfully for " + selections.size()
+                        + (selections.size() == 1 ? " post" : " posts") + ". Thank you!");
             } catch (SQLException ex) {
                 conn.rollback();
                 showMessage("Failed to record vote due to database error: " + ex.getMessage());
@@ -459,14 +720,14 @@ public class VotingGUI extends JFrame {
             return;
         }
         
-        List<Candidate> results = fetchAllCandidatesSorted();
+        Map<String, List<Candidate>> results = fetchResultsByPost();
         if (results.isEmpty()) {
             showMessage("No candidates were registered.");
             return;
         }
         
-        StringBuilder sb = new StringBuilder("--- Voting Results ---\n\n");
-        results.forEach(c -> sb.append(c.getName()).append(" : ").append(c.getVoteCount()).append("\n"));
+        StringBuilder sb = new StringBuilder("--- Voting Results ---\n");
+        appendResults(sb, results);
         
         JOptionPane.showMessageDialog(this, new JScrollPane(new JTextArea(sb.toString(), 10, 30)), 
                                       "Election Results", JOptionPane.PLAIN_MESSAGE);
@@ -475,6 +736,9 @@ public class VotingGUI extends JFrame {
     // --- DB Helper Implementations ---
 
     private boolean isStudentRegistered(String regNo) {
+        // Fast path: the voter-roll index warmed at start-up
+        if (DBHelper.isIndexedStudent(regNo)) return true;
+
         String sql = "SELECT 1 FROM students WHERE regNo = ?;";
         try (Connection conn = DBHelper.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -525,36 +789,40 @@ public class VotingGUI extends JFrame {
     }
     
     private List<Candidate> fetchAllCandidates() {
-        List<Candidate> out = new ArrayList<>();
-        String sql = "SELECT id, name, votes FROM candidates ORDER BY id ASC;";
-        try (Connection conn = DBHelper.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) {
-                out.add(new Candidate(rs.getInt("id"), rs.getString("name"), rs.getInt("votes")));
-            }
-        } catch (SQLException e) {
-            System.err.println("DB error (fetchAllCandidates): " + e.getMessage());
-        }
-        return out;
+        // Ballot only needs ids and names, so the start-up cache is fine here
+        return DBHelper.getCandidates();
     }
 
-    private List<Candidate> fetchAllCandidatesSorted() {
-        List<Candidate> out = new ArrayList<>();
+    /**
+     * Returns the results for every post in a single query, posts in creation
+     * order and candidates sorted by votes within each post.
+     */
+    private Map<String, List<Candidate>> fetchResultsByPost() {
+        Map<String, List<Candidate>> out = new LinkedHashMap<>();
         // Sort by votes DESC, then name ASC for tie-breaking
-        String sql = "SELECT id, name, votes FROM candidates ORDER BY votes DESC, name ASC;";
+        String sql = "SELECT p.name AS post, c.id, c.name, c.votes, c.postId "
+                + "FROM candidates c JOIN posts p ON p.id = c.postId "
+                + "ORDER BY p.id ASC, c.votes DESC, c.name ASC;";
         try (Connection conn = DBHelper.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
-                out.add(new Candidate(rs.getInt("id"), rs.getString("name"), rs.getInt("votes")));
+                out.computeIfAbsent(rs.getString("post"), k -> new ArrayList<>())
+                   .add(new Candidate(rs.getInt("id"), rs.getString("name"), rs.getInt("votes"), rs.getInt("postId")));
             }
         } catch (SQLException e) {
-            System.err.println("DB error (fetchAllCandidatesSorted): " + e.getMessage());
+            System.err.println("DB error (fetchResultsByPost): " + e.getMessage());
         }
         return out;
     }
 
+    private static void appendResults(StringBuilder sb, Map<String, List<Candidate>> results) {
+        results.forEach((post, list) -> {
+            sb.append("\n[").append(post).append("]\n");
+            list.forEach(c -> sb.append(c.getName()).append(" : ").append(c.getVoteCount()).append("\n"));
+        });
+    }
+
 
     // --- Security Helper ---
 